@@ -48,6 +48,13 @@ public class Account {
         }
     }
 
+    /**
+     * For the holder of the write lock, {@link #getBalance()} would wait for that lock forever
+     */
+    long getLockedBalance() {
+        return balance;
+    }
+
     public void withdraw(long amount) throws AccountBalanceOverflowException {
         long before = balance;
         balance -= amount;
@@ -17,9 +17,51 @@ public class Bank {
 
     private SecurityDepartment securityDepartment = new RandomSecurityDepartment();
 
+    private final BankStatistics statistics = new BankStatistics();
+
     public boolean addAccount(Account account) {
-        Account alreadyExistingAccount = allAccounts.putIfAbsent(account.getAccountNumber(), account);
-        return alreadyExistingAccount == null;
+        // lock so that the account can't be transferred before it's counted
+        long stamp = account.writeLock();
+        try {
+            Account alreadyExistingAccount = allAccounts.putIfAbsent(account.getAccountNumber(), account);
+            if (alreadyExistingAccount != null) {
+                return false;
+            }
+            statistics.accountAdded(account, account.getLockedBalance());
+            return true;
+        } finally {
+            account.releaseLock(stamp);
+        }
+    }
+
+    public void blockAccount(String accountNumber) throws AccountNotFoundException {
+        Account account = getAccount(accountNumber);
+        long stamp = account.writeLock();
+        try {
+            block(account);
+        } finally {
+            account.releaseLock(stamp);
+        }
+    }
+
+    /**
+     * @return sum of all the balances, overdrafts included
+     */
+    public long getTotalDeposits() {
+        return statistics.getTotalDeposits();
+    }
+
+    public long getBlockedAccountsCount() {
+        return statistics.getBlockedAccounts();
+    }
+
+    /**
+     * Accounts which are being transferred at the moment may be missing from the result.
+     *
+     * @return up to n account numbers with their balances, from the largest balance
+     */
+    public Map<String, Long> getTopBalances(int n) {
+        return statistics.getTopBalances(n);
     }
 
     public long getBalance(String accountNumber) throws AccountNotFoundException {
@@ -48,6 +90,8 @@ public class Bank {
             stampTo = accountTo.writeLock();
         }
 
+        long balanceFrom = accountFrom.getLockedBalance();
+        long balanceTo = accountTo.getLockedBalance();
         try {
             if (accountFrom.isBlocked())
                 throw new AccountBlockedException(accountFrom.getAccountNumber());
@@ -61,13 +105,16 @@ public class Bank {
             if (securityDepartment.checkIsNeeded(amount)) {
                 boolean isFraud = isFraud(accountFrom, accountTo, amount);
                 if (isFraud) {
-                    accountFrom.blockAccount();
-                    accountTo.blockAccount();
+                    block(accountFrom);
+                    block(accountTo);
                     log("Fraud is detected, accounts [" + accountFrom + ", " + accountTo + "] are blocked. " +
                             "Client is not notified.");
                 }
             }
         } finally {
+            // balances may change even on a failure, e.g. an overflow of the withdraw
+            statistics.balanceChanged(accountFrom, balanceFrom, accountFrom.getLockedBalance());
+            statistics.balanceChanged(accountTo, balanceTo, accountTo.getLockedBalance());
             accountFrom.releaseLock(stampFrom);
             accountTo.releaseLock(stampTo);
         }
@@ -75,6 +122,13 @@ public class Bank {
 
     }
 
+    private void block(Account account) {
+        if (!account.isBlocked()) {
+            account.blockAccount();
+            statistics.accountBlocked();
+        }
+    }
+
     private void log(String message) {
         System.out.println(message);
     }
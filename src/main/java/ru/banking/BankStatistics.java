@@ -0,0 +1,92 @@
+package ru.banking;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bank-wide aggregates which are maintained on every change instead of scanning and locking all the accounts.
+ * <p>
+ * Callers have to hold the write lock of an account while reporting its changes, so that updates
+ * of the same account are never reordered.
+ */
+class BankStatistics {
+
+    private final LongAdder totalDeposits = new LongAdder();
+    private final LongAdder blockedAccounts = new LongAdder();
+
+    private final ConcurrentSkipListSet<BalanceSnapshot> balances = new ConcurrentSkipListSet<>(
+            (first, second) -> {
+                int byBalance = Long.compare(second.getBalance(), first.getBalance());
+                return byBalance != 0 ? byBalance : first.getAccountNumber().compareTo(second.getAccountNumber());
+            });
+
+    void accountAdded(Account account, long balance) {
+        totalDeposits.add(balance);
+        if (account.isBlocked()) {
+            blockedAccounts.increment();
+        }
+        balances.add(new BalanceSnapshot(account.getAccountNumber(), balance));
+    }
+
+    /**
+     * A successful transfer doesn't change the total, but a failed one may, e.g. a withdraw
+     * which overflowed keeps its new balance while the deposit never happens.
+     */
+    void balanceChanged(Account account, long before, long after) {
+        if (before == after) {
+            return;
+        }
+        totalDeposits.add(after - before);
+        balances.remove(new BalanceSnapshot(account.getAccountNumber(), before));
+        balances.add(new BalanceSnapshot(account.getAccountNumber(), after));
+    }
+
+    void accountBlocked() {
+        blockedAccounts.increment();
+    }
+
+    long getTotalDeposits() {
+        return totalDeposits.sum();
+    }
+
+    long getBlockedAccounts() {
+        return blockedAccounts.sum();
+    }
+
+    /**
+     * Not a snapshot: an account which is being updated concurrently may be missed, when its new balance is
+     * inserted behind the iterator after its old one is removed, or seen twice, then the first seen balance wins.
+     *
+     * @return account numbers and balances ordered by balance from the largest one
+     */
+    Map<String, Long> getTopBalances(int n) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        Iterator<BalanceSnapshot> iterator = balances.iterator();
+        while (top.size() < n && iterator.hasNext()) {
+            BalanceSnapshot snapshot = iterator.next();
+            top.putIfAbsent(snapshot.getAccountNumber(), snapshot.getBalance());
+        }
+        return top;
+    }
+
+    private static class BalanceSnapshot {
+        private final String accountNumber;
+        private final long balance;
+
+        BalanceSnapshot(String accountNumber, long balance) {
+            this.accountNumber = accountNumber;
+            this.balance = balance;
+        }
+
+        String getAccountNumber() {
+            return accountNumber;
+        }
+
+        long getBalance() {
+            return balance;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import ru.banking.exceptions.AccountBalanceOverflowException;
 import ru.banking.exceptions.AccountBlockedException;
 import ru.banking.exceptions.AccountNotFoundException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.*;
@@ -270,4 +273,83 @@ public class BankTest {
             bank.transfer(from, to, 50_001);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void statistics() throws Exception {
+        bank.setSecurityDepartment(new TolerantSecurityDepartment());
+        bank.addAccount(new Account("1").initialBalance(100));
+        bank.addAccount(new Account("2").initialBalance(1_000_000));
+        bank.addAccount(new Account("3").initialBalance(500));
+        bank.addAccount(new Account("3").initialBalance(100_000));
+        assertEquals(1_000_600, bank.getTotalDeposits());
+        assertEquals(0, bank.getBlockedAccountsCount());
+
+        bank.transfer("1", "3", 200);
+        bank.transfer("2", "1", 700_000);
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("1", 699_900L);
+        expected.put("2", 300_000L);
+        assertTopBalances(expected, bank.getTopBalances(2));
+        expected.put("3", 700L);
+        assertTopBalances(expected, bank.getTopBalances(10));
+
+        assertEquals(1_000_600, bank.getTotalDeposits());
+        assertEquals(2, bank.getBlockedAccountsCount());
+        bank.blockAccount("1");
+        bank.blockAccount("3");
+        assertEquals(3, bank.getBlockedAccountsCount());
+    }
+
+    @Test
+    public void totalDepositsAfterFailedWithdraw() throws Exception {
+        bank.addAccount(new Account("1").initialBalance(-100));
+        bank.addAccount(new Account("2").initialBalance(50));
+        try {
+            bank.transfer("1", "2", Long.MAX_VALUE);
+            fail("Withdraw should overflow");
+        } catch (AccountBalanceOverflowException e) {
+            // expected
+        }
+        assertEquals(bank.getBalance("1") + bank.getBalance("2"), bank.getTotalDeposits());
+
+        bank.addAccount(new Account("3").initialBalance(10));
+        bank.addAccount(new Account("4").initialBalance(10));
+        try {
+            bank.transfer("3", "4", -5);
+            fail("Withdraw of a negative amount should fail");
+        } catch (AccountBalanceOverflowException e) {
+            // expected
+        }
+        assertEquals(15, bank.getBalance("3"));
+        assertEquals(bank.getBalance("1") + bank.getBalance("2") + 15 + 10, bank.getTotalDeposits());
+    }
+
+    @Test
+    public void consistentStatisticsAfterConcurrentTransfers() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch readyLatch = new CountDownLatch(3);
+        bank.addAccount(new Account("1").initialBalance(1_000_000));
+        bank.addAccount(new Account("2").initialBalance(50));
+        bank.addAccount(new Account("3").initialBalance(150));
+
+        int tries = 10_000;
+        new Thread(() -> executeManyTransfers("1", "2", tries, start, readyLatch)).start();
+        new Thread(() -> executeManyTransfers("1", "3", tries, start, readyLatch)).start();
+        new Thread(() -> executeManyTransfers("2", "3", tries, start, readyLatch)).start();
+
+        start.countDown();
+        readyLatch.await();
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("3", (long) 150 + tries * 2 * AMOUNT_FOR_CONCURRENCY);
+        expected.put("2", 50L);
+        expected.put("1", (long) 1_000_000 - tries * 2 * AMOUNT_FOR_CONCURRENCY);
+        assertTopBalances(expected, bank.getTopBalances(3));
+        assertEquals(1_000_200, bank.getTotalDeposits());
+    }
+
+    private void assertTopBalances(Map<String, Long> expected, Map<String, Long> actual) {
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+    }
+}
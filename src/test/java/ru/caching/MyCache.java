@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
  * by Anatolii Danilov on 29-3-2017.
@@ -15,6 +17,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * Кэш должен при достижении лимита по памяти начинать использовать диск для хранения данных.
  * <p>
  * Методы loadFromFile, saveToFile уже реализованы, но они не являются thread-safe, и, что хуже, saveToFile работает 1000ms.
+ * <p>
+ * Entries may have a time to live and a max idle time, they are expired by a {@link TimingWheel} which is advanced
+ * on every put and get. Memory of an expired entry is reclaimed immediately, its file is removed in background.
  */
 public class MyCache {
 
@@ -30,6 +35,20 @@ public class MyCache {
 
     private Map<String, byte[]> fileSystem = new HashMap<>();
 
+    private final LongSupplier ticker;
+    private final long origin;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final TimingWheel timingWheel = new TimingWheel();
+    private ConcurrentHashMap<Integer, Expiry> expiries = new ConcurrentHashMap<>();
+
+    public MyCache() {
+        this(System::nanoTime);
+    }
+
+    MyCache(LongSupplier ticker) {
+        this.ticker = ticker;
+        this.origin = ticker.getAsLong();
+    }
 
     public byte[] loadFromFile(String filename) {
         return fileSystem.get(filename);
@@ -44,14 +63,52 @@ public class MyCache {
         }
     }
 
+    public void deleteFile(String filename) {
+        fileSystem.remove(filename);
+    }
+
     public int putToCache(byte[] data) {
         int nextId = sequenceId.incrementAndGet();
+        store(data, nextId);
+        advanceTimingWheel();
+        return nextId;
+    }
+
+    /**
+     * @param timeToLive entry is expired after this time since it was put, 0 - never
+     * @param maxIdle    entry is expired after this time since it was put or last got, 0 - never
+     */
+    public int putToCache(byte[] data, long timeToLive, long maxIdle, TimeUnit unit) {
+        if (timeToLive < 0 || maxIdle < 0)
+            throw new IllegalArgumentException("Expiration times can't be negative");
+        if (timeToLive == 0 && maxIdle == 0) {
+            return putToCache(data);
+        }
 
+        int nextId = sequenceId.incrementAndGet();
+        long now = nanos();
+        Expiry expiry = new Expiry(nextId,
+                timeToLive == 0 ? Long.MAX_VALUE : saturatedAdd(now, unit.toNanos(timeToLive)),
+                maxIdle == 0 ? Long.MAX_VALUE : unit.toNanos(maxIdle), now);
+        expiries.put(nextId, expiry);
+        store(data, nextId);
+
+        wheelLock.lock();
+        try {
+            timingWheel.schedule(expiry);
+            timingWheel.advance(nanos(), node -> expire((Expiry) node));
+        } finally {
+            wheelLock.unlock();
+        }
+        return nextId;
+    }
+
+    private void store(byte[] data, int nextId) {
         long beforeAdding = cacheSize.get();
         long newSize = beforeAdding + data.length;
         if (newSize > limit) {
             submitFileSave(data, nextId);
-            return nextId;
+            return;
         }
 
         while (!cacheSize.compareAndSet(beforeAdding, newSize)) {
@@ -59,12 +116,11 @@ public class MyCache {
             newSize = beforeAdding + data.length;
             if (newSize > limit) {
                 submitFileSave(data, nextId);
-                return nextId;
+                return;
             }
         }
 
         cache.put(nextId, data);
-        return nextId;
     }
 
     private void submitFileSave(byte[] data, int nextId) {
@@ -84,6 +140,16 @@ public class MyCache {
     }
 
     public byte[] getFromCache(int id) {
+        advanceTimingWheel();
+        Expiry expiry = expiries.get(id);
+        if (expiry != null) {
+            long now = nanos();
+            if (expiry.isExpired(now)) {
+                return null; // the wheel will reclaim it on its tick
+            }
+            expiry.lastAccess = now;
+        }
+
         byte[] bytes = cache.get(id);
         if (bytes != null) {
             return bytes;
@@ -102,5 +168,64 @@ public class MyCache {
         return cacheSize.get();
     }
 
+    private long nanos() {
+        return ticker.getAsLong() - origin;
+    }
+
+    /**
+     * Readers don't wait for the wheel, if somebody is already advancing it, that's enough.
+     */
+    private void advanceTimingWheel() {
+        if (expiries.isEmpty() || !wheelLock.tryLock()) {
+            return;
+        }
+        try {
+            timingWheel.advance(nanos(), node -> expire((Expiry) node));
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private static long saturatedAdd(long nanos, long delta) {
+        return delta > Long.MAX_VALUE - nanos ? Long.MAX_VALUE : nanos + delta;
+    }
+
+    private void expire(Expiry expiry) {
+        int id = expiry.id;
+        expiries.remove(id);
+        byte[] bytes = cache.remove(id);
+        if (bytes != null) {
+            cacheSize.addAndGet(-bytes.length);
+        }
+        String filename = fileCache.remove(id);
+        if (filename != null) {
+            // same thread as saving, so the file system is never touched concurrently by writers
+            saveToFilesystemService.submit(() -> deleteFile(filename));
+        }
+    }
+
+    private static class Expiry extends TimingWheel.Node {
+        private final int id;
+        private final long expireAt;
+        private final long maxIdle;
+        private volatile long lastAccess;
+
+        Expiry(int id, long expireAt, long maxIdle, long now) {
+            this.id = id;
+            this.expireAt = expireAt;
+            this.maxIdle = maxIdle;
+            this.lastAccess = now;
+        }
+
+        @Override
+        long getDeadline() {
+            return Math.min(expireAt, saturatedAdd(lastAccess, maxIdle));
+        }
+
+        boolean isExpired(long now) {
+            return getDeadline() <= now;
+        }
+    }
+
 
 }
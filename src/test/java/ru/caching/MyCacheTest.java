@@ -4,8 +4,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * by Anatolii Danilov on 29-3-2017.
@@ -70,4 +74,61 @@ public class MyCacheTest {
         myCache.putToCache(new byte[80000]);
         ready.countDown();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void timeToLive() throws Exception {
+        AtomicLong time = new AtomicLong();
+        myCache = new MyCache(time::get);
+        int forever = myCache.putToCache(new byte[100]);
+        int shortLived = myCache.putToCache(new byte[200], 10, 0, TimeUnit.SECONDS);
+        int longLived = myCache.putToCache(new byte[300], 10, 0, TimeUnit.MINUTES);
+        assertEquals(600, myCache.getCacheSize());
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertEquals(200, myCache.getFromCache(shortLived).length);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(myCache.getFromCache(shortLived));
+        assertEquals(400, myCache.getCacheSize());
+
+        time.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        assertNull(myCache.getFromCache(longLived));
+        assertEquals(100, myCache.getFromCache(forever).length);
+        assertEquals(100, myCache.getCacheSize());
+    }
+
+    @Test
+    public void maxIdle() throws Exception {
+        AtomicLong time = new AtomicLong();
+        myCache = new MyCache(time::get);
+        int id = myCache.putToCache(new byte[100], 0, 5, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            time.addAndGet(TimeUnit.SECONDS.toNanos(4));
+            assertEquals(100, myCache.getFromCache(id).length);
+        }
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertNull(myCache.getFromCache(id));
+        assertEquals(0, myCache.getCacheSize());
+    }
+
+    @Test
+    public void bigImageExpires() throws Exception {
+        AtomicLong time = new AtomicLong();
+        myCache = new MyCache(time::get);
+        int id = myCache.putToCache(new byte[1_000_000], 1, 0, TimeUnit.HOURS);
+        assertEquals(1_000_000, myCache.getFromCache(id).length);
+        assertNotNull(myCache.loadFromFile("CH_" + id));
+
+        time.addAndGet(TimeUnit.HOURS.toNanos(2));
+        assertNull(myCache.getFromCache(id));
+        assertEquals(0, myCache.getCacheSize());
+
+        // the file is removed in background
+        long giveUpAt = System.currentTimeMillis() + 5_000;
+        while (myCache.loadFromFile("CH_" + id) != null && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(10);
+        }
+        assertNull(myCache.loadFromFile("CH_" + id));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.caching;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Scheduling a node is O(1): it is linked into the bucket of the
+ * coarsest level which still resolves its deadline. Advancing the wheel walks only the buckets
+ * whose ticks have passed, nodes of upper levels cascade down as their deadlines come closer.
+ * <p>
+ * Time is measured in nanoseconds relative to the creation of the wheel, so it is never negative.
+ * The wheel is not thread-safe, callers have to guard it.
+ */
+class TimingWheel {
+
+    private static final int BUCKETS = 64;
+    private static final int MASK = BUCKETS - 1;
+
+    /**
+     * Level i has ticks of 2^SHIFTS[i] ns: ~1ms, ~67ms, ~4.3s, ~4.6min, ~4.9h.
+     * The last level covers ~13 days, longer deadlines are parked there and re-cascaded.
+     */
+    private static final int[] SHIFTS = {20, 26, 32, 38, 44};
+
+    private final Node[][] wheel = new Node[SHIFTS.length][BUCKETS];
+
+    private long nanos;
+
+    TimingWheel() {
+        for (Node[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                level[i] = Node.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Links the node into the bucket matching its current deadline.
+     */
+    void schedule(Node node) {
+        long deadline = Math.max(node.getDeadline(), nanos);
+        long delay = deadline - nanos;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= (1L << SHIFTS[level + 1])) {
+            level++;
+        }
+        Node sentinel = wheel[level][(int) ((deadline >>> SHIFTS[level]) & MASK)];
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    /**
+     * Moves the wheel to {@code currentNanos}. Nodes whose deadline has passed are unlinked and handed to
+     * {@code expired}, the others (e.g. prolonged by an access) are scheduled again.
+     */
+    void advance(long currentNanos, Consumer<Node> expired) {
+        long previousNanos = nanos;
+        if (currentNanos <= previousNanos) {
+            return;
+        }
+        nanos = currentNanos;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousNanos >>> SHIFTS[level];
+            long currentTicks = currentNanos >>> SHIFTS[level];
+            if (currentTicks == previousTicks) {
+                break;
+            }
+            long steps = Math.min(currentTicks - previousTicks + 1, BUCKETS);
+            for (long tick = previousTicks; tick < previousTicks + steps; tick++) {
+                expireBucket(wheel[level][(int) (tick & MASK)], expired);
+            }
+        }
+    }
+
+    private void expireBucket(Node sentinel, Consumer<Node> expired) {
+        Node node = sentinel.next;
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        while (node != sentinel) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            if (node.getDeadline() <= nanos) {
+                expired.accept(node);
+            } else {
+                schedule(node);
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Element of a bucket list. The deadline may move, it's re-read every time the node's bucket is expired.
+     */
+    abstract static class Node {
+        private Node prev;
+        private Node next;
+
+        private static Node sentinel() {
+            Node sentinel = new Node() {
+                @Override
+                long getDeadline() {
+                    return Long.MAX_VALUE;
+                }
+            };
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        abstract long getDeadline();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.caching;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that nodes cascade from the upper levels and fire not earlier than their deadlines.
+ */
+public class TimingWheelTest {
+
+    private final TimingWheel timingWheel = new TimingWheel();
+    private final List<TimingWheel.Node> expired = new ArrayList<>();
+
+    @Test
+    public void firesInDeadlineOrder() throws Exception {
+        TestNode millis = schedule(TimeUnit.MILLISECONDS.toNanos(3));
+        TestNode seconds = schedule(TimeUnit.SECONDS.toNanos(3));
+        TestNode hours = schedule(TimeUnit.HOURS.toNanos(3));
+        TestNode months = schedule(TimeUnit.DAYS.toNanos(60));
+
+        advance(TimeUnit.MILLISECONDS.toNanos(2));
+        assertTrue(expired.isEmpty());
+        advance(TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(singletonList(millis), expired);
+
+        // go step by step to make nodes cascade through all the levels
+        for (long now = TimeUnit.MILLISECONDS.toNanos(5); now < TimeUnit.HOURS.toNanos(3); now += TimeUnit.MILLISECONDS.toNanos(7)) {
+            advance(now);
+            for (TimingWheel.Node node : expired) {
+                assertTrue(node.getDeadline() <= now);
+            }
+        }
+        assertEquals(asList(millis, seconds), expired);
+
+        advance(TimeUnit.HOURS.toNanos(3) + 1);
+        assertEquals(asList(millis, seconds, hours), expired);
+
+        advance(TimeUnit.DAYS.toNanos(59));
+        assertEquals(3, expired.size());
+        advance(TimeUnit.DAYS.toNanos(61));
+        assertEquals(asList(millis, seconds, hours, months), expired);
+    }
+
+    @Test
+    public void prolongedNodeIsRescheduled() throws Exception {
+        TestNode node = schedule(TimeUnit.SECONDS.toNanos(1));
+        node.deadline = TimeUnit.SECONDS.toNanos(10);
+
+        advance(TimeUnit.SECONDS.toNanos(2));
+        assertTrue(expired.isEmpty());
+        advance(TimeUnit.SECONDS.toNanos(11));
+        assertEquals(singletonList(node), expired);
+    }
+
+    private TestNode schedule(long deadline) {
+        TestNode node = new TestNode(deadline);
+        timingWheel.schedule(node);
+        return node;
+    }
+
+    private void advance(long nanos) {
+        timingWheel.advance(nanos, expired::add);
+    }
+
+    private static class TestNode extends TimingWheel.Node {
+        private long deadline;
+
+        TestNode(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        long getDeadline() {
+            return deadline;
+        }
+    }
+}